@@ -0,0 +1,19 @@
+package com.curtisnewbie.goauth.client;
+
+import org.springframework.context.annotation.*;
+
+import java.lang.annotation.*;
+
+/**
+ * Enable Goauth Access Cache, access decisions are cached locally and warmed up with the scanned REST paths, resources
+ * granted to roles are also cached locally (see {@link RoleResourceCache})
+ *
+ * @author yongj.zhuang
+ */
+@Documented
+@Import({RestPathScanner.class, PathAccessCache.class, PathAccessCacheWarmUp.class, RoleResourceCache.class})
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface EnableGoauthAccessCache {
+
+}
@@ -25,4 +25,7 @@ public interface GoAuthClient {
     @PostMapping("/resource/add")
     Result<Void> addResource(@RequestBody AddResourceReq req);
 
+    @PostMapping("/role/resource/list")
+    Result<RoleResourcesResp> listRoleResources(@RequestBody RoleResourcesReq req);
+
 }
@@ -0,0 +1,174 @@
+package com.curtisnewbie.goauth.client;
+
+import com.curtisnewbie.common.vo.*;
+import lombok.extern.slf4j.*;
+import org.springframework.beans.factory.*;
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.core.env.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Local cache of access decisions returned by {@link GoAuthClient#testResAccess(TestResAccessReq)}
+ * <p>
+ * Decisions are cached per (roleNo, method, url) and expire after {@link #EXPIRE_SECONDS_KEY} seconds (minus up to 20%
+ * of jitter, so decisions loaded together don't expire together), at most {@link #MAX_SIZE_KEY} decisions are cached.
+ * Expired decisions are evicted when they are read, or swept when the cache is full; if it's still full, arbitrary
+ * decisions are evicted to make room. Concurrent misses of the same decision share one request to goauth.
+ *
+ * @author yongj.zhuang
+ */
+@Slf4j
+public class PathAccessCache implements InitializingBean {
+
+    public static final String EXPIRE_SECONDS_KEY = "goauth.access.cache.expire-seconds";
+    public static final String MAX_SIZE_KEY = "goauth.access.cache.max-size";
+
+    @Autowired
+    private GoAuthClient goAuthClient;
+    @Autowired
+    private Environment env;
+
+    private final ConcurrentMap<String, Decision> decisions = new ConcurrentHashMap<>();
+    /** Loads in progress, concurrent misses of the same decision share the same load */
+    private final ConcurrentMap<String, CompletableFuture<Decision>> loading = new ConcurrentHashMap<>();
+    private volatile long expireMillis = TimeUnit.SECONDS.toMillis(300);
+    private volatile int maxSize = 10000;
+
+    public PathAccessCache() {
+    }
+
+    PathAccessCache(GoAuthClient goAuthClient, long expireMillis, int maxSize) {
+        this.goAuthClient = goAuthClient;
+        this.expireMillis = expireMillis;
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        this.expireMillis = TimeUnit.SECONDS.toMillis(Long.parseLong(env.getProperty(EXPIRE_SECONDS_KEY, "300")));
+        this.maxSize = Integer.parseInt(env.getProperty(MAX_SIZE_KEY, "10000"));
+    }
+
+    /**
+     * Test whether the role can access the path, goauth is only requested when the decision is not cached or is expired
+     */
+    public boolean testResAccess(String roleNo, String url, String method) {
+        final String key = key(roleNo, url, method);
+        final Decision d = decisions.get(key);
+        if (d != null) {
+            if (!d.isExpired(System.currentTimeMillis())) return d.valid;
+            decisions.remove(key, d);
+        }
+        return load(key, roleNo, url, method, true).valid;
+    }
+
+    /**
+     * Prefetch access decision, errors are logged but never thrown
+     * <p>
+     * Prefetched decisions never evict other decisions, they are not cached when the cache is full
+     *
+     * @return whether the decision is loaded and cached
+     */
+    public boolean prefetch(String roleNo, String url, String method) {
+        try {
+            final String key = key(roleNo, url, method);
+            return decisions.get(key) == load(key, roleNo, url, method, false);
+        } catch (Throwable e) {
+            log.warn("Failed to prefetch access decision, roleNo: {}, url: {}, method: {}", roleNo, url, method, e);
+            return false;
+        }
+    }
+
+    /** Number of decisions cached, expired decisions are excluded */
+    public int size() {
+        final long now = System.currentTimeMillis();
+        return (int) decisions.values().stream().filter(d -> !d.isExpired(now)).count();
+    }
+
+    /** Number of decisions that can still be cached without evicting others */
+    public int remainingCapacity() {
+        return Math.max(0, maxSize - decisions.size());
+    }
+
+    /** Invalidate all cached decisions */
+    public void invalidateAll() {
+        decisions.clear();
+    }
+
+    protected Decision load(String key, String roleNo, String url, String method, boolean evict) {
+        final CompletableFuture<Decision> future = new CompletableFuture<>();
+        final CompletableFuture<Decision> inProgress = loading.putIfAbsent(key, future);
+        if (inProgress != null) {
+            try {
+                return inProgress.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+                throw e;
+            }
+        }
+
+        try {
+            final Decision d = fetch(roleNo, url, method);
+            cache(key, d, evict);
+            future.complete(d);
+            return d;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, future);
+        }
+    }
+
+    protected Decision fetch(String roleNo, String url, String method) {
+        final TestResAccessReq req = new TestResAccessReq();
+        req.setRoleNo(roleNo);
+        req.setUrl(url);
+        req.setMethod(method);
+
+        final Result<TestResAccessResp> res = goAuthClient.testResAccess(req);
+        res.assertIsOk();
+        final boolean valid = res.getData() != null && res.getData().isValid();
+        final long jitter = ThreadLocalRandom.current().nextLong(expireMillis / 5 + 1);
+        return new Decision(valid, System.currentTimeMillis() + expireMillis - jitter);
+    }
+
+    private void cache(String key, Decision d, boolean evict) {
+        if (decisions.size() >= maxSize && !decisions.containsKey(key)) {
+            final long now = System.currentTimeMillis();
+            decisions.values().removeIf(e -> e.isExpired(now));
+            if (decisions.size() >= maxSize) {
+                if (!evict) return;
+
+                // evict about 10% of the decisions, so the sweep above isn't repeated for every new decision
+                int n = maxSize / 10 + 1;
+                final Iterator<Decision> it = decisions.values().iterator();
+                while (n-- > 0 && it.hasNext()) {
+                    it.next();
+                    it.remove();
+                }
+            }
+        }
+        decisions.put(key, d);
+    }
+
+    private static String key(String roleNo, String url, String method) {
+        return roleNo + ":" + (method != null ? method.toUpperCase() : "") + ":" + url;
+    }
+
+    protected static class Decision {
+        private final boolean valid;
+        private final long expireAt;
+
+        private Decision(boolean valid, long expireAt) {
+            this.valid = valid;
+            this.expireAt = expireAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expireAt;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.curtisnewbie.goauth.client;
+
+import lombok.extern.slf4j.*;
+import org.springframework.beans.factory.*;
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.core.env.*;
+import org.springframework.util.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.stream.Collectors;
+
+/**
+ * Warm up {@link PathAccessCache} with the PROTECTED paths parsed by RestPathScanner
+ * <p>
+ * The paths are crossed with the roles configured in {@link #ROLES_KEY}, and the access decisions are prefetched
+ * (with bounded parallelism) before the application context is refreshed. Warm-up runs in {@link
+ * #afterSingletonsInstantiated()}, when all singletons are created, since the first requests made by Feign may create
+ * and refresh child contexts that call back into this application context. At most {@link
+ * PathAccessCache#remainingCapacity()} decisions are prefetched, warm-up never evicts decisions.
+ *
+ * @author yongj.zhuang
+ */
+@Slf4j
+public class PathAccessCacheWarmUp implements InitializingBean, SmartInitializingSingleton {
+
+    public static final String DISABLE_WARMUP_KEY = "goauth.access.warmup.disabled";
+    public static final String ROLES_KEY = "goauth.access.warmup.roles";
+    public static final String PARALLELISM_KEY = "goauth.access.warmup.parallelism";
+    public static final String TIMEOUT_SECONDS_KEY = "goauth.access.warmup.timeout-seconds";
+
+    @Autowired
+    private RestPathScanner restPathScanner;
+    @Autowired
+    private PathAccessCache pathAccessCache;
+    @Autowired
+    private Environment env;
+
+    private Set<String> roles = Collections.emptySet();
+    private String group;
+    private int parallelism;
+    private long timeoutSec;
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        final boolean disabled = Boolean.parseBoolean(env.getProperty(DISABLE_WARMUP_KEY, "false"));
+        if (disabled) return;
+
+        roles = StringUtils.commaDelimitedListToSet(env.getProperty(ROLES_KEY, ""))
+                .stream()
+                .map(String::trim)
+                .filter(StringUtils::hasText)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (roles.isEmpty()) {
+            log.debug("No roles configured for GoAuth access cache warm-up, skipped");
+            return;
+        }
+
+        group = env.getProperty("spring.application.name");
+        parallelism = Integer.parseInt(env.getProperty(PARALLELISM_KEY, "8"));
+        timeoutSec = Long.parseLong(env.getProperty(TIMEOUT_SECONDS_KEY, "30"));
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (roles.isEmpty()) return;
+
+        // the parsed list is only taken out in the callback, warm-up is blocking, it runs after the callback returns
+        final AtomicReference<List<RestPathScanner.RestPath>> parsed = new AtomicReference<>();
+        restPathScanner.onParsed(parsed::set);
+        if (parsed.get() == null) {
+            log.warn("GoAuth RestPaths are not available, access cache warm-up skipped");
+            return;
+        }
+        warmUp(parsed.get(), roles, group, parallelism, timeoutSec, pathAccessCache);
+    }
+
+    /**
+     * Prefetch access decisions of the PROTECTED paths for the roles
+     *
+     * @return number of decisions loaded and cached
+     */
+    protected static int warmUp(List<RestPathScanner.RestPath> restPaths, Set<String> roles, String group, int parallelism,
+                                long timeoutSec, PathAccessCache pathAccessCache) {
+        final List<RestPathScanner.RestPath> protectedPaths = RestPathScanner.distinctNonRemotePaths(restPaths)
+                .stream()
+                .filter(p -> p.httpMethod != null && (p.pathDoc == null || p.pathDoc.type() == PathType.PROTECTED))
+                .collect(Collectors.toList());
+        if (protectedPaths.isEmpty()) return 0;
+
+        final StopWatch sw = new StopWatch();
+        sw.start();
+
+        final AtomicInteger loaded = new AtomicInteger();
+        final ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, parallelism));
+        try {
+            // warm-up stops when the cache is full, it shouldn't take the room of decisions of real requests
+            final int limit = Math.min(roles.size() * protectedPaths.size(), pathAccessCache.remainingCapacity());
+            if (limit < roles.size() * protectedPaths.size()) {
+                log.warn("GoAuth access cache can't hold all decisions of {} roles and {} paths, only {} are prefetched",
+                        roles.size(), protectedPaths.size(), limit);
+            }
+
+            final List<CompletableFuture<Void>> futures = new ArrayList<>(limit);
+            outer:
+            for (String role : roles) {
+                for (RestPathScanner.RestPath p : protectedPaths) {
+                    if (futures.size() >= limit) break outer;
+                    final String url = "/" + group + p.getCompletePath();
+                    final String method = p.httpMethod.name();
+                    futures.add(CompletableFuture.runAsync(() -> {
+                        if (pathAccessCache.prefetch(role, url, method)) loaded.incrementAndGet();
+                    }, pool));
+                }
+            }
+
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(timeoutSec, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            log.warn("GoAuth access cache warm-up timed out after {}s, continue startup", timeoutSec);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.error("Failed to warm up GoAuth access cache", e);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        sw.stop();
+        log.info("GoAuth access cache warmed up, took: {}ms ({} roles, {} paths, {} decisions loaded)",
+                sw.getTotalTimeMillis(), roles.size(), protectedPaths.size(), loaded.get());
+        return loaded.get();
+    }
+}
@@ -37,13 +37,7 @@ public class RestPathReporter implements InitializingBean {
         if (!disabled) {
             restPathScanner.onParsed(restPaths -> {
                 CompletableFuture.runAsync(() -> {
-                    final Set<String> paths = new HashSet<>();
-                    final List<RestPathScanner.RestPath> filtered = restPaths.stream()
-                            .filter(p -> {
-                                String cp = p.getCompletePath();
-                                return !cp.startsWith("/remote") && paths.add((p.httpMethod != null ? p.httpMethod.name() : "") + ":" + cp);
-                            })
-                            .collect(Collectors.toList());
+                    final List<RestPathScanner.RestPath> filtered = RestPathScanner.distinctNonRemotePaths(restPaths);
 
                     final StopWatch sw = new StopWatch();
                     sw.start();
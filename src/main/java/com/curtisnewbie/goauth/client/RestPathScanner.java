@@ -5,6 +5,8 @@ import lombok.extern.slf4j.*;
 import org.springframework.aop.support.*;
 import org.springframework.beans.*;
 import org.springframework.context.*;
+import org.springframework.context.event.*;
+import org.springframework.core.env.*;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.*;
 import org.springframework.util.*;
@@ -13,23 +15,33 @@ import org.springframework.web.bind.annotation.*;
 import java.lang.annotation.*;
 import java.lang.reflect.*;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 import java.util.function.*;
+import java.util.stream.Collectors;
 
 import static java.util.Collections.*;
 
 /**
  * Scanner of REST Path
  * <p>
- * Potential candidates include beans that are annotated with @Controller and @RestController
+ * Potential candidates include beans that are annotated with @Controller and @RestController, bean classes are scanned in
+ * parallel (see {@link #SCAN_PARALLELISM_KEY}).
  *
  * @author yongj.zhuang
  */
 @Slf4j
-public class RestPathScanner implements ApplicationContextAware {
+public class RestPathScanner implements ApplicationContextAware, ApplicationListener<ContextRefreshedEvent> {
+
+    public static final String SCAN_PARALLELISM_KEY = "goauth.path.scan.parallelism";
+    public static final String RELEASE_ON_REFRESHED_KEY = "goauth.path.scan.release-on-refreshed";
 
     private static final Map<Class<? extends Annotation>, MappingPathParser> clz2Parser = new HashMap<>();
-    private volatile List<RestPath> parsedRestPaths = new ArrayList<>();
+    private volatile List<RestPath> parsedRestPaths = null;
     private List<Consumer<List<RestPath>>> onParsed = new ArrayList<>();
+    private boolean released = false;
+    private volatile ApplicationContext appCtx;
+    private volatile boolean releaseOnRefreshed = false;
 
     static {
         clz2Parser.put(RequestMapping.class, o -> {
@@ -79,36 +91,118 @@ public class RestPathScanner implements ApplicationContextAware {
 
     @Override
     public void setApplicationContext(ApplicationContext appCtx) throws BeansException {
+        final Environment env = appCtx.getEnvironment();
+        final int parallelism = Integer.parseInt(env.getProperty(SCAN_PARALLELISM_KEY,
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        this.appCtx = appCtx;
+        this.releaseOnRefreshed = Boolean.parseBoolean(env.getProperty(RELEASE_ON_REFRESHED_KEY, "false"));
+
         final Map<String, Object> beans = appCtx.getBeansWithAnnotation(Controller.class);
-        final List<RestPath> restPaths = new ArrayList<>();
+        final List<Class<?>> beanClasses = new ArrayList<>(beans.size());
+        beans.forEach((k, v) -> beanClasses.add(AopUtils.getTargetClass(v)));
 
         final StopWatch sw = new StopWatch();
         sw.start();
-        beans.forEach((k, v) -> parseRestPath(restPaths, AopUtils.getTargetClass(v), appCtx.getEnvironment()::resolvePlaceholders));
+        final List<RestPath> restPaths = unmodifiableList(parseRestPaths(beanClasses, env::resolvePlaceholders, parallelism));
         sw.stop();
 
         log.info("GoAuth RestPath Scanned, found: {} REST paths, took: {}ms", restPaths.size(), sw.getTotalTimeMillis());
 
+        // callbacks are invoked outside of the lock, they may block
+        final List<Consumer<List<RestPath>>> callbacks;
         synchronized (this) {
-            this.parsedRestPaths = restPaths;
-            if (!this.onParsed.isEmpty()) {
-                this.onParsed.forEach(callback -> {
-                    callback.accept(new ArrayList<>(this.parsedRestPaths));
-                });
+            if (this.released) {
+                log.info("GoAuth RestPaths have been released, scanned REST paths are discarded");
+                return;
             }
+            this.parsedRestPaths = restPaths;
+            callbacks = new ArrayList<>(this.onParsed);
+            this.onParsed.clear();
         }
+        callbacks.forEach(callback -> callback.accept(restPaths));
     }
 
-    /** Register onParsed callback */
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        // consumers are registered before the context is refreshed, child contexts are ignored
+        if (releaseOnRefreshed && event.getApplicationContext() == appCtx) {
+            releaseParsedRestPaths();
+        }
+    }
+
+    /**
+     * Register onParsed callback
+     * <p>
+     * The list of REST paths is unmodifiable and shared by all callbacks, callbacks registered after {@link
+     * #releaseParsedRestPaths()} are ignored. If the REST paths are already parsed, the callback is invoked on the
+     * calling thread before this method returns.
+     */
     public void onParsed(Consumer<List<RestPath>> callback) {
         if (callback == null) return;
+        final List<RestPath> parsed;
         synchronized (this) {
-            if (this.parsedRestPaths != null) {
-                callback.accept(new ArrayList<>(this.parsedRestPaths));
-            } else {
+            if (this.released) {
+                log.warn("GoAuth RestPaths have been released, onParsed callback is ignored");
+                return;
+            }
+            parsed = this.parsedRestPaths;
+            if (parsed == null) {
                 this.onParsed.add(callback);
+                return;
+            }
+        }
+        callback.accept(parsed);
+    }
+
+    /**
+     * Filter out paths of remote endpoints (prefixed with '/remote') and paths that are duplicate (same method and
+     * complete path)
+     */
+    public static List<RestPath> distinctNonRemotePaths(List<RestPath> restPaths) {
+        final Set<String> paths = new HashSet<>();
+        return restPaths.stream()
+                .filter(p -> {
+                    String cp = p.getCompletePath();
+                    return !cp.startsWith("/remote") && paths.add((p.httpMethod != null ? p.httpMethod.name() : "") + ":" + cp);
+                })
+                .collect(Collectors.toList());
+    }
+
+    /** Release the parsed REST paths, should only be called once all onParsed callbacks are registered */
+    public void releaseParsedRestPaths() {
+        synchronized (this) {
+            if (this.released) return;
+            this.released = true;
+            this.parsedRestPaths = null;
+            this.onParsed.clear();
+        }
+        log.info("GoAuth RestPaths released");
+    }
+
+    /**
+     * Parse REST paths of the bean classes, bean classes are parsed in a dedicated ForkJoinPool (one task per bean
+     * class) when parallelism is greater than 1, the order of the parsed REST paths is always the same as the order of
+     * the bean classes. Failures are thrown as FatalBeanException regardless of the parallelism
+     */
+    public static List<RestPath> parseRestPaths(List<Class<?>> beanClasses, Function<String, String> resolvePlaceholders, int parallelism) {
+        if (parallelism <= 1 || beanClasses.size() < 2) {
+            try {
+                final List<RestPath> restPaths = new ArrayList<>();
+                beanClasses.forEach(c -> parseRestPath(restPaths, c, resolvePlaceholders));
+                return restPaths;
+            } catch (RuntimeException e) {
+                throw new FatalBeanException("Failed to scan REST paths", e);
             }
         }
+
+        final ForkJoinPool pool = new ForkJoinPool(Math.min(parallelism, beanClasses.size()));
+        try {
+            return pool.invoke(new ParseRestPathTask(beanClasses, 0, beanClasses.size(), resolvePlaceholders));
+        } catch (RuntimeException e) {
+            throw new FatalBeanException("Failed to scan REST paths", e);
+        } finally {
+            pool.shutdown();
+        }
     }
 
     public static PathDoc extractDoc(Method m) {
@@ -252,6 +346,41 @@ public class RestPathScanner implements ApplicationContextAware {
         }
     }
 
+    /**
+     * Parse bean classes in [from, to), each task parses into its own list, lists are merged in order when tasks join
+     */
+    private static class ParseRestPathTask extends RecursiveTask<List<RestPath>> {
+        private final List<Class<?>> beanClasses;
+        private final int from;
+        private final int to;
+        private final Function<String, String> resolvePlaceholders;
+
+        private ParseRestPathTask(List<Class<?>> beanClasses, int from, int to, Function<String, String> resolvePlaceholders) {
+            this.beanClasses = beanClasses;
+            this.from = from;
+            this.to = to;
+            this.resolvePlaceholders = resolvePlaceholders;
+        }
+
+        @Override
+        protected List<RestPath> compute() {
+            if (to - from == 1) {
+                final List<RestPath> restPaths = new ArrayList<>();
+                parseRestPath(restPaths, beanClasses.get(from), resolvePlaceholders);
+                return restPaths;
+            }
+
+            final int mid = (from + to) >>> 1;
+            final ParseRestPathTask left = new ParseRestPathTask(beanClasses, from, mid, resolvePlaceholders);
+            final ParseRestPathTask right = new ParseRestPathTask(beanClasses, mid, to, resolvePlaceholders);
+            left.fork();
+            final List<RestPath> rightPaths = right.compute();
+            final List<RestPath> restPaths = left.join();
+            restPaths.addAll(rightPaths);
+            return restPaths;
+        }
+    }
+
     @FunctionalInterface
     private interface MappingPathParser {
         List<ParsedMapping> parsed(Annotation o);
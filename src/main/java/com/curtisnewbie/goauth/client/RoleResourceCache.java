@@ -0,0 +1,174 @@
+package com.curtisnewbie.goauth.client;
+
+import com.curtisnewbie.common.vo.*;
+import lombok.extern.slf4j.*;
+import org.springframework.beans.factory.*;
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.core.env.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Local cache of resources granted to each role
+ * <p>
+ * Resource codes are interned to indices, and the resources of a role are held as a BitSet, which is loaded with one
+ * request when the role is first checked, and then refreshed in background every {@link #REFRESH_SECONDS_KEY} seconds.
+ * <p>
+ * Resources loaded more than {@link #MAX_STALE_SECONDS_KEY} seconds ago are never trusted, they are loaded again when
+ * the role is checked, and the error is propagated if goauth is unavailable. Roles that goauth doesn't know (the
+ * response has no data) are cached with no resources, they are refreshed and become stale like other roles.
+ *
+ * @author yongj.zhuang
+ */
+@Slf4j
+public class RoleResourceCache implements InitializingBean, DisposableBean {
+
+    public static final String REFRESH_SECONDS_KEY = "goauth.resource.cache.refresh-seconds";
+    public static final String MAX_STALE_SECONDS_KEY = "goauth.resource.cache.max-stale-seconds";
+
+    @Autowired
+    private GoAuthClient goAuthClient;
+    @Autowired
+    private Environment env;
+
+    private final ConcurrentMap<String /* resCode */, Integer> codeIndices = new ConcurrentHashMap<>();
+    private final AtomicInteger nextIndex = new AtomicInteger();
+    private final ConcurrentMap<String /* roleNo */, Grants> roleResources = new ConcurrentHashMap<>();
+    /** Loads in progress, concurrent checks of the same role share the same load */
+    private final ConcurrentMap<String /* roleNo */, CompletableFuture<Grants>> loading = new ConcurrentHashMap<>();
+    private volatile long maxStaleMillis = TimeUnit.SECONDS.toMillis(180);
+    private volatile ScheduledExecutorService scheduler;
+
+    public RoleResourceCache() {
+    }
+
+    RoleResourceCache(GoAuthClient goAuthClient, long maxStaleMillis) {
+        this.goAuthClient = goAuthClient;
+        this.maxStaleMillis = maxStaleMillis;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        final long refreshSec = Long.parseLong(env.getProperty(REFRESH_SECONDS_KEY, "60"));
+        final long defMaxStaleSec = refreshSec > 0 ? refreshSec * 3 : 180;
+        this.maxStaleMillis = TimeUnit.SECONDS.toMillis(Long.parseLong(env.getProperty(MAX_STALE_SECONDS_KEY,
+                String.valueOf(defMaxStaleSec))));
+        if (refreshSec <= 0) return;
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread t = new Thread(r, "goauth-role-resource-refresh");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::refreshAll, refreshSec, refreshSec, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (scheduler != null) scheduler.shutdownNow();
+    }
+
+    /**
+     * Check whether the role is granted the resource, resources of the role are loaded if they are not cached yet or
+     * are stale
+     */
+    public boolean hasResource(String roleNo, String resCode) {
+        if (roleNo == null || resCode == null) return false;
+
+        Grants granted = roleResources.get(roleNo);
+        if (granted == null || granted.isStale(System.currentTimeMillis(), maxStaleMillis)) granted = load(roleNo);
+
+        final Integer idx = codeIndices.get(resCode);
+        return idx != null && granted.codes.get(idx);
+    }
+
+    /** Invalidate cached resources of the role, they are loaded again when the role is checked */
+    public void invalidate(String roleNo) {
+        if (roleNo == null) return;
+        // loads in progress are detached first, so they can't put the resources back
+        loading.remove(roleNo);
+        roleResources.remove(roleNo);
+    }
+
+    /**
+     * Refresh resources of every cached role, roles that fail to refresh keep their previous resources until they are
+     * stale, roles that are invalidated during the refresh are not put back
+     */
+    public void refreshAll() {
+        for (String roleNo : new ArrayList<>(roleResources.keySet())) {
+            try {
+                final Grants fetched = fetch(roleNo);
+                roleResources.computeIfPresent(roleNo, (k, prev) -> fetched);
+            } catch (Throwable e) {
+                log.warn("Failed to refresh resources of role: {}", roleNo, e);
+                final Grants prev = roleResources.get(roleNo);
+                if (prev != null && prev.isStale(System.currentTimeMillis(), maxStaleMillis)) roleResources.remove(roleNo, prev);
+            }
+        }
+    }
+
+    protected Grants load(String roleNo) {
+        final CompletableFuture<Grants> future = new CompletableFuture<>();
+        final CompletableFuture<Grants> inProgress = loading.putIfAbsent(roleNo, future);
+        if (inProgress != null) {
+            try {
+                return inProgress.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+                throw e;
+            }
+        }
+
+        try {
+            final Grants fetched = fetch(roleNo);
+            // only put when the load is not detached by invalidate(...)
+            roleResources.compute(roleNo, (k, prev) -> loading.get(k) == future ? fetched : prev);
+            future.complete(fetched);
+            return fetched;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(roleNo, future);
+        }
+    }
+
+    protected Grants fetch(String roleNo) {
+        final RoleResourcesReq req = new RoleResourcesReq();
+        req.setRoleNo(roleNo);
+
+        final Result<RoleResourcesResp> res = goAuthClient.listRoleResources(req);
+        res.assertIsOk();
+
+        // unknown role (no data) is cached with no resources
+        final RoleResourcesResp data = res.getData();
+        final BitSet codes = new BitSet();
+        if (data != null && data.getResCodes() != null) {
+            for (String code : data.getResCodes()) {
+                if (code != null) codes.set(indexOf(code));
+            }
+        }
+        return new Grants(codes, System.currentTimeMillis());
+    }
+
+    private int indexOf(String resCode) {
+        return codeIndices.computeIfAbsent(resCode, k -> nextIndex.getAndIncrement());
+    }
+
+    /** Resources granted to a role, never modified once created */
+    protected static class Grants {
+        private final BitSet codes;
+        private final long loadedAt;
+
+        private Grants(BitSet codes, long loadedAt) {
+            this.codes = codes;
+            this.loadedAt = loadedAt;
+        }
+
+        private boolean isStale(long now, long maxStaleMillis) {
+            return now - loadedAt >= maxStaleMillis;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.curtisnewbie.goauth.client;
+
+import lombok.Data;
+
+/**
+ * @author yongj.zhuang
+ */
+@Data
+public class RoleResourcesReq {
+    private String roleNo;
+}
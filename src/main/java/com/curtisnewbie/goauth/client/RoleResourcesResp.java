@@ -0,0 +1,14 @@
+package com.curtisnewbie.goauth.client;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * @author yongj.zhuang
+ */
+@Data
+public class RoleResourcesResp {
+    private String roleNo;
+    private List<String> resCodes;
+}
@@ -0,0 +1,209 @@
+package com.curtisnewbie.goauth.client;
+
+import feign.*;
+import lombok.extern.slf4j.*;
+import net.bytebuddy.*;
+import net.bytebuddy.description.annotation.*;
+import net.bytebuddy.description.modifier.*;
+import net.bytebuddy.dynamic.*;
+import net.bytebuddy.dynamic.loading.*;
+import net.bytebuddy.implementation.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.condition.*;
+import org.springframework.boot.autoconfigure.http.*;
+import org.springframework.cloud.openfeign.support.*;
+import org.springframework.context.support.*;
+import org.springframework.stereotype.*;
+import org.springframework.util.*;
+import org.springframework.web.bind.annotation.*;
+
+import java.lang.annotation.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * End-to-end load test against {@link GoAuthStubServer}
+ * <p>
+ * Synthetic controllers are scanned by RestPathScanner, reported by RestPathReporter, and then concurrent
+ * testResAccess requests are made through Feign. Only runs with {@code -Dgoauth.loadtest=true}, see README for the
+ * available system properties.
+ *
+ * @author yongj.zhuang
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "goauth.loadtest", matches = "true")
+public class GoAuthLoadTest {
+
+    private static final List<Class<? extends Annotation>> MAPPINGS = Arrays.asList(
+            GetMapping.class, PostMapping.class, PutMapping.class, DeleteMapping.class);
+
+    @Test
+    public void should_run_load_test() throws Exception {
+        final int controllers = Integer.getInteger("goauth.loadtest.controllers", 200);
+        final int endpoints = Integer.getInteger("goauth.loadtest.endpoints-per-controller", 20);
+        final long latencyMs = Long.getLong("goauth.loadtest.latency-ms", 1);
+        final double errorRate = Double.parseDouble(System.getProperty("goauth.loadtest.error-rate", "0"));
+        final int instances = Integer.getInteger("goauth.loadtest.instances", 2);
+        final int threads = Integer.getInteger("goauth.loadtest.threads", 32);
+        final int checks = Integer.getInteger("goauth.loadtest.checks", 20000);
+
+        final List<GoAuthStubServer> servers = new ArrayList<>();
+        final GenericApplicationContext ctx = new GenericApplicationContext();
+        final ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            final List<GoAuthClient> clients = new ArrayList<>();
+            for (int i = 0; i < instances; i++) {
+                final GoAuthStubServer server = new GoAuthStubServer(latencyMs, errorRate).start();
+                servers.add(server);
+                clients.add(feignClient(server.getUrl()));
+            }
+
+            // scan
+            for (int i = 0; i < controllers; i++) {
+                ctx.registerBean(syntheticController(i, endpoints));
+            }
+            ctx.refresh();
+
+            final List<RestPathScanner.RestPath> restPaths = new ArrayList<>();
+            final RestPathScanner scanner = new RestPathScanner();
+            StopWatch sw = new StopWatch();
+            sw.start();
+            scanner.setApplicationContext(ctx);
+            scanner.onParsed(restPaths::addAll);
+            sw.stop();
+            final long scanMs = sw.getTotalTimeMillis();
+            Assertions.assertEquals(controllers * endpoints, restPaths.size());
+
+            // report, requests are spread across instances
+            final GoAuthClient reportClient = roundRobin(clients);
+            sw = new StopWatch();
+            sw.start();
+            RestPathReporter.reportResources(restPaths, reportClient);
+            RestPathReporter.reportPaths(restPaths, "loadtest", reportClient);
+            sw.stop();
+            final long reportMs = sw.getTotalTimeMillis();
+
+            // concurrent access checks
+            final long[] latencies = new long[checks];
+            final boolean[] failed = new boolean[checks];
+            final AtomicInteger idx = new AtomicInteger();
+            final AtomicInteger errors = new AtomicInteger();
+            final long start = System.nanoTime();
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    int i;
+                    while ((i = idx.getAndIncrement()) < checks) {
+                        final RestPathScanner.RestPath p = restPaths.get(i % restPaths.size());
+                        final TestResAccessReq req = new TestResAccessReq();
+                        req.setRoleNo("role_" + (i % 16));
+                        req.setUrl("/loadtest" + p.getCompletePath());
+                        req.setMethod(p.httpMethod.name());
+
+                        final long s = System.nanoTime();
+                        try {
+                            clients.get(i % clients.size()).testResAccess(req).assertIsOk();
+                        } catch (Throwable e) {
+                            errors.incrementAndGet();
+                            failed[i] = true;
+                        }
+                        latencies[i] = System.nanoTime() - s;
+                    }
+                }));
+            }
+            for (Future<?> f : futures) f.get();
+            final long checkNanos = System.nanoTime() - start;
+
+            final long[] okLatencies = new long[checks - errors.get()];
+            final long[] failedLatencies = new long[errors.get()];
+            for (int i = 0, ok = 0, err = 0; i < checks; i++) {
+                if (failed[i]) failedLatencies[err++] = latencies[i];
+                else okLatencies[ok++] = latencies[i];
+            }
+
+            log.info("GoAuth load test, instances: {}, latency: {}ms, error rate: {}, threads: {}", instances, latencyMs, errorRate, threads);
+            log.info("Scan: {} controllers, {} paths, took: {}ms", controllers, restPaths.size(), scanMs);
+            log.info("Report: {} paths, took: {}ms", restPaths.size(), reportMs);
+            log.info("Check: {} requests, {} errors, throughput: {} req/s", checks, errors.get(),
+                    String.format("%.1f", checks / (checkNanos / 1e9)));
+            log.info("Check (succeeded): {}", latencySummary(okLatencies));
+            log.info("Check (failed): {}", latencySummary(failedLatencies));
+
+            // make sure requests actually reached the stubs, and didn't just fail fast
+            Assertions.assertEquals(restPaths.size(), requestCount(servers, "/remote/path/add"));
+            Assertions.assertEquals(checks, requestCount(servers, "/remote/path/resource/access-test"));
+            if (errorRate <= 0) {
+                Assertions.assertEquals(0, errors.get());
+                Assertions.assertEquals(Math.min(controllers, 50), requestCount(servers, "/remote/resource/add"));
+            }
+        } finally {
+            pool.shutdownNow();
+            ctx.close();
+            servers.forEach(GoAuthStubServer::close);
+        }
+    }
+
+    private static long requestCount(List<GoAuthStubServer> servers, String path) {
+        return servers.stream().mapToLong(s -> s.getRequestCount(path)).sum();
+    }
+
+    private static String latencySummary(long[] latencies) {
+        if (latencies.length == 0) return "0 requests";
+        Arrays.sort(latencies);
+        return String.format("%d requests, p50: %dus, p90: %dus, p99: %dus, max: %dus", latencies.length,
+                percentile(latencies, 50), percentile(latencies, 90), percentile(latencies, 99),
+                latencies[latencies.length - 1] / 1000);
+    }
+
+    private static long percentile(long[] sorted, int p) {
+        final int i = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(i, sorted.length - 1))] / 1000;
+    }
+
+    private static GoAuthClient feignClient(String url) {
+        final HttpMessageConverters converters = new HttpMessageConverters();
+        return Feign.builder()
+                .contract(new SpringMvcContract())
+                .encoder(new SpringEncoder(() -> converters))
+                .decoder(new ResponseEntityDecoder(new SpringDecoder(() -> converters)))
+                .target(GoAuthClient.class, url);
+    }
+
+    private static GoAuthClient roundRobin(List<GoAuthClient> clients) {
+        final AtomicInteger next = new AtomicInteger();
+        return (GoAuthClient) java.lang.reflect.Proxy.newProxyInstance(GoAuthClient.class.getClassLoader(),
+                new Class<?>[]{GoAuthClient.class},
+                (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) return method.invoke(clients.get(0), args);
+                    final GoAuthClient c = clients.get(Math.floorMod(next.getAndIncrement(), clients.size()));
+                    try {
+                        return method.invoke(c, args);
+                    } catch (java.lang.reflect.InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private static Class<?> syntheticController(int n, int endpoints) {
+        DynamicType.Builder<Object> b = new ByteBuddy()
+                .subclass(Object.class)
+                .name("com.curtisnewbie.goauth.client.synthetic.SyntheticCtrl" + n)
+                .annotateType(AnnotationDescription.Builder.ofType(Controller.class).build(),
+                        AnnotationDescription.Builder.ofType(RequestMapping.class).defineArray("value", "/ctrl-" + n).build(),
+                        AnnotationDescription.Builder.ofType(PathDoc.class)
+                                .define("resourceCode", "res-" + (n % 50))
+                                .define("resourceName", "Synthetic Resource " + (n % 50))
+                                .build());
+        for (int i = 0; i < endpoints; i++) {
+            b = b.defineMethod("endpoint" + i, void.class, Visibility.PUBLIC)
+                    .intercept(StubMethod.INSTANCE)
+                    .annotateMethod(AnnotationDescription.Builder.ofType(MAPPINGS.get(i % MAPPINGS.size()))
+                            .defineArray("value", "/endpoint-" + i)
+                            .build());
+        }
+        return b.make()
+                .load(GoAuthLoadTest.class.getClassLoader(), ClassLoadingStrategy.Default.WRAPPER)
+                .getLoaded();
+    }
+}
@@ -0,0 +1,33 @@
+package com.curtisnewbie.goauth.client;
+
+import com.curtisnewbie.common.vo.Result;
+
+import java.util.Arrays;
+
+/**
+ * Results returned by mocked GoAuthClient in tests
+ *
+ * @author yongj.zhuang
+ */
+public final class GoAuthResults {
+
+    private GoAuthResults() {
+    }
+
+    public static Result<TestResAccessResp> accessResult(boolean valid) {
+        final TestResAccessResp resp = new TestResAccessResp();
+        resp.setValid(valid);
+        return Result.of(resp);
+    }
+
+    public static Result<RoleResourcesResp> roleResourcesResult(String roleNo, String... resCodes) {
+        final RoleResourcesResp resp = new RoleResourcesResp();
+        resp.setRoleNo(roleNo);
+        resp.setResCodes(Arrays.asList(resCodes));
+        return Result.of(resp);
+    }
+
+    public static <T> Result<T> errorResult() {
+        return Result.error("goauth is unavailable");
+    }
+}
@@ -0,0 +1,117 @@
+package com.curtisnewbie.goauth.client;
+
+import com.sun.net.httpserver.*;
+import lombok.extern.slf4j.*;
+
+import java.io.*;
+import java.net.*;
+import java.nio.charset.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * In-process stub of goauth's remote endpoints, for load testing only
+ * <p>
+ * Each request is delayed by the configured latency, and fails (with HTTP 500) at the configured error rate
+ *
+ * @author yongj.zhuang
+ */
+@Slf4j
+public class GoAuthStubServer implements AutoCloseable {
+
+    private final long latencyMs;
+    private final double errorRate;
+    private final Map<String, AtomicLong> requestCount = new ConcurrentHashMap<>();
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public GoAuthStubServer(long latencyMs, double errorRate) {
+        this.latencyMs = latencyMs;
+        this.errorRate = errorRate;
+    }
+
+    /** Start the server on a random port */
+    public GoAuthStubServer start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.createContext("/remote/", this::handle);
+        server.start();
+        log.info("GoAuth stub server started, url: {}, latency: {}ms, error rate: {}", getUrl(), latencyMs, errorRate);
+        return this;
+    }
+
+    /** Base url of the remote endpoints, e.g., http://127.0.0.1:1234/remote */
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/remote";
+    }
+
+    /** Number of requests received by the path */
+    public long getRequestCount(String path) {
+        final AtomicLong c = requestCount.get(path);
+        return c != null ? c.get() : 0;
+    }
+
+    @Override
+    public void close() {
+        if (server != null) server.stop(0);
+        if (executor != null) executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            final String path = exchange.getRequestURI().getPath();
+            requestCount.computeIfAbsent(path, k -> new AtomicLong()).incrementAndGet();
+            drain(exchange.getRequestBody());
+
+            if (latencyMs > 0) Thread.sleep(latencyMs);
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                respond(exchange, 500, "{\"errorCode\":\"STUB_ERROR\",\"msg\":\"stub error\",\"hasError\":true}");
+                return;
+            }
+
+            switch (path) {
+                case "/remote/path/resource/access-test":
+                    respond(exchange, 200, ok("{\"valid\":true}"));
+                    break;
+                case "/remote/path/add":
+                case "/remote/resource/add":
+                    respond(exchange, 200, ok("null"));
+                    break;
+                case "/remote/role/info":
+                    respond(exchange, 200, ok("{\"roleNo\":\"role_stub\",\"name\":\"Stub Role\"}"));
+                    break;
+                case "/remote/role/resource/list":
+                    respond(exchange, 200, ok("{\"roleNo\":\"role_stub\",\"resCodes\":[\"res-0\",\"res-1\"]}"));
+                    break;
+                default:
+                    respond(exchange, 404, "{\"errorCode\":\"NOT_FOUND\",\"msg\":\"not found\",\"hasError\":true}");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static String ok(String data) {
+        return "{\"hasError\":false,\"data\":" + data + "}";
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    private static void drain(InputStream in) throws IOException {
+        final byte[] buf = new byte[1024];
+        while (in.read(buf) != -1) {
+            // discard request body
+        }
+    }
+}
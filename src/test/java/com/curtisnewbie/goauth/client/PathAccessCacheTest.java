@@ -0,0 +1,128 @@
+package com.curtisnewbie.goauth.client;
+
+import lombok.extern.slf4j.*;
+import org.junit.jupiter.api.*;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static com.curtisnewbie.goauth.client.GoAuthResults.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author yongj.zhuang
+ */
+@Slf4j
+public class PathAccessCacheTest {
+
+    @Test
+    public void should_cache_access_decision() {
+        final GoAuthClient goAuthClient = mock(GoAuthClient.class);
+        when(goAuthClient.testResAccess(any())).thenReturn(accessResult(true));
+
+        final PathAccessCache cache = new PathAccessCache(goAuthClient, 60_000, 100);
+        Assertions.assertTrue(cache.testResAccess("role_1", "/test/dummy/get-info", "GET"));
+        Assertions.assertTrue(cache.testResAccess("role_1", "/test/dummy/get-info", "get"));
+        verify(goAuthClient, times(1)).testResAccess(any());
+
+        Assertions.assertTrue(cache.testResAccess("role_2", "/test/dummy/get-info", "GET"));
+        verify(goAuthClient, times(2)).testResAccess(any());
+    }
+
+    @Test
+    public void should_bound_cached_decisions() {
+        final GoAuthClient goAuthClient = mock(GoAuthClient.class);
+        when(goAuthClient.testResAccess(any())).thenReturn(accessResult(true));
+
+        final PathAccessCache cache = new PathAccessCache(goAuthClient, 60_000, 2);
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertTrue(cache.testResAccess("role_1", "/test/dummy/" + i, "GET"));
+        }
+        Assertions.assertEquals(2, cache.size());
+
+        final PathAccessCache expired = new PathAccessCache(goAuthClient, 0, 2);
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertTrue(expired.testResAccess("role_1", "/test/dummy/" + i, "GET"));
+        }
+        Assertions.assertEquals(0, expired.size());
+    }
+
+    @Test
+    public void should_share_concurrent_loads() throws Exception {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final GoAuthClient goAuthClient = mock(GoAuthClient.class);
+        when(goAuthClient.testResAccess(any())).thenAnswer(inv -> {
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return accessResult(true);
+        });
+
+        final PathAccessCache cache = new PathAccessCache(goAuthClient, 60_000, 100);
+        final CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() -> cache.testResAccess("role_1", "/test/dummy/get-info", "GET"));
+        Assertions.assertTrue(entered.await(5, TimeUnit.SECONDS));
+        final CompletableFuture<Boolean> second = CompletableFuture.supplyAsync(() -> cache.testResAccess("role_1", "/test/dummy/get-info", "GET"));
+        Thread.sleep(50);
+        release.countDown();
+
+        Assertions.assertTrue(first.get(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(second.get(5, TimeUnit.SECONDS));
+        verify(goAuthClient, times(1)).testResAccess(any());
+    }
+
+    @Test
+    public void should_not_warm_up_beyond_capacity() {
+        final GoAuthClient goAuthClient = mock(GoAuthClient.class);
+        when(goAuthClient.testResAccess(any())).thenReturn(accessResult(true));
+
+        final List<RestPathScanner.RestPath> restPaths = new ArrayList<>();
+        RestPathScanner.parseRestPath(restPaths, RestPathScannerTest.DummyCtrl.class, t -> t);
+
+        final PathAccessCache cache = new PathAccessCache(goAuthClient, 60_000, 10);
+        Assertions.assertEquals(10, PathAccessCacheWarmUp.warmUp(restPaths, Collections.singleton("role_1"), "test", 4, 10, cache));
+        Assertions.assertEquals(10, cache.size());
+        Assertions.assertFalse(cache.prefetch("role_2", "/test/dummy/get-info", "GET"));
+
+        // decisions of real requests still evict the warmed ones
+        Assertions.assertTrue(cache.testResAccess("role_2", "/test/dummy/get-info", "GET"));
+        Assertions.assertTrue(cache.testResAccess("role_2", "/test/dummy/get-info", "GET"));
+        verify(goAuthClient, times(12)).testResAccess(any());
+    }
+
+    @Test
+    public void should_not_cache_failed_decision() {
+        final GoAuthClient goAuthClient = mock(GoAuthClient.class);
+        when(goAuthClient.testResAccess(any())).thenReturn(errorResult());
+
+        final PathAccessCache cache = new PathAccessCache(goAuthClient, 60_000, 100);
+        Assertions.assertFalse(cache.prefetch("role_1", "/test/dummy/get-info", "GET"));
+        Assertions.assertEquals(0, cache.size());
+        Assertions.assertThrows(Exception.class, () -> cache.testResAccess("role_1", "/test/dummy/get-info", "GET"));
+
+        final List<RestPathScanner.RestPath> restPaths = new ArrayList<>();
+        RestPathScanner.parseRestPath(restPaths, RestPathScannerTest.DummyCtrl.class, t -> t);
+        Assertions.assertEquals(0, PathAccessCacheWarmUp.warmUp(restPaths, Collections.singleton("role_1"), "test", 4, 10, cache));
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void should_warm_up_protected_paths() {
+        final GoAuthClient goAuthClient = mock(GoAuthClient.class);
+        when(goAuthClient.testResAccess(any())).thenReturn(accessResult(false));
+
+        final List<RestPathScanner.RestPath> restPaths = new ArrayList<>();
+        RestPathScanner.parseRestPath(restPaths, RestPathScannerTest.DummyCtrl.class, t -> t);
+        restPaths.add(new RestPathScanner.RestPath("open", "info", RequestMethod.GET,
+                new RestPathScanner.PathDocObj("", PathType.PUBLIC, "", "", null)));
+
+        final PathAccessCache cache = new PathAccessCache(goAuthClient, 60_000, 100);
+        final int loaded = PathAccessCacheWarmUp.warmUp(restPaths, new LinkedHashSet<>(Arrays.asList("role_1", "role_2")), "test", 4, 10, cache);
+        Assertions.assertEquals(24, loaded); // 12 protected paths * 2 roles, public path is skipped
+        Assertions.assertEquals(24, cache.size());
+
+        Assertions.assertFalse(cache.testResAccess("role_1", "/test/dummy/get-info", "GET"));
+        verify(goAuthClient, times(24)).testResAccess(any());
+    }
+}
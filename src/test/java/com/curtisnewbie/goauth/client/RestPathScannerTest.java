@@ -2,6 +2,9 @@ package com.curtisnewbie.goauth.client;
 
 import lombok.extern.slf4j.*;
 import org.junit.jupiter.api.*;
+import org.springframework.beans.*;
+import org.springframework.context.annotation.*;
+import org.springframework.core.env.*;
 import org.springframework.stereotype.*;
 import org.springframework.web.bind.annotation.*;
 
@@ -41,6 +44,92 @@ public class RestPathScannerTest {
         Assertions.assertEquals("/dummy/info", new RestPathScanner.RestPath("dummy", "info/////", RequestMethod.GET, doc).getCompletePath());
     }
 
+    @Test
+    public void should_parse_rest_paths_in_parallel() {
+        final List<Class<?>> beanClasses = Arrays.asList(DummyCtrl.class, OtherDummyCtrl.class, DummyCtrl.class);
+        final List<RestPathScanner.RestPath> sequential = RestPathScanner.parseRestPaths(beanClasses, t -> t, 1);
+        final List<RestPathScanner.RestPath> parallel = RestPathScanner.parseRestPaths(beanClasses, t -> t, 4);
+        Assertions.assertEquals(26, sequential.size()); // 12 + 2 + 12
+        Assertions.assertEquals(sequential.size(), parallel.size());
+        for (int i = 0; i < sequential.size(); i++) {
+            Assertions.assertEquals(sequential.get(i).getCompletePath(), parallel.get(i).getCompletePath());
+            Assertions.assertEquals(sequential.get(i).httpMethod, parallel.get(i).httpMethod);
+        }
+    }
+
+    @Test
+    public void should_fail_the_same_way_regardless_of_parallelism() {
+        final List<Class<?>> beanClasses = Arrays.asList(DummyCtrl.class, OtherDummyCtrl.class);
+        final java.util.function.Function<String, String> failing = t -> {
+            throw new IllegalArgumentException("unresolvable placeholder");
+        };
+        Assertions.assertThrows(FatalBeanException.class, () -> RestPathScanner.parseRestPaths(beanClasses, failing, 1));
+        Assertions.assertThrows(FatalBeanException.class, () -> RestPathScanner.parseRestPaths(beanClasses, failing, 4));
+    }
+
+    @Test
+    public void should_share_and_release_parsed_rest_paths() {
+        final AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(DummyCtrl.class, OtherDummyCtrl.class);
+        final RestPathScanner scanner = new RestPathScanner();
+        final List<List<RestPathScanner.RestPath>> received = new ArrayList<>();
+        scanner.onParsed(received::add);
+        scanner.setApplicationContext(ctx);
+        scanner.onParsed(received::add);
+
+        Assertions.assertEquals(2, received.size());
+        Assertions.assertSame(received.get(0), received.get(1));
+        Assertions.assertEquals(14, received.get(0).size());
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> received.get(0).clear());
+
+        scanner.releaseParsedRestPaths();
+        scanner.onParsed(received::add);
+        Assertions.assertEquals(2, received.size());
+        ctx.close();
+    }
+
+    @Test
+    public void should_release_parsed_rest_paths_on_context_refreshed() {
+        final AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext();
+        ctx.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test",
+                Collections.<String, Object>singletonMap(RestPathScanner.RELEASE_ON_REFRESHED_KEY, "true")));
+        ctx.register(DummyCtrl.class, OtherDummyCtrl.class, RestPathScanner.class);
+        ctx.refresh();
+
+        final List<List<RestPathScanner.RestPath>> received = new ArrayList<>();
+        ctx.getBean(RestPathScanner.class).onParsed(received::add);
+        Assertions.assertTrue(received.isEmpty());
+        ctx.close();
+    }
+
+    @Test
+    public void should_not_retain_rest_paths_parsed_after_release() {
+        final AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(DummyCtrl.class);
+        final RestPathScanner scanner = new RestPathScanner();
+        final List<List<RestPathScanner.RestPath>> received = new ArrayList<>();
+        scanner.onParsed(received::add);
+        scanner.releaseParsedRestPaths();
+        scanner.setApplicationContext(ctx);
+
+        Assertions.assertTrue(received.isEmpty());
+        scanner.onParsed(received::add);
+        Assertions.assertTrue(received.isEmpty());
+        ctx.close();
+    }
+
+    @Component
+    @RestController
+    @RequestMapping("/other-dummy")
+    public static class OtherDummyCtrl {
+
+        @GetMapping("/get-info")
+        public void getInfo() {
+        }
+
+        @PostMapping("/post-info")
+        public void postInfo() {
+        }
+    }
+
     @Component
     @RestController
     @RequestMapping("/dummy")
@@ -0,0 +1,97 @@
+package com.curtisnewbie.goauth.client;
+
+import com.curtisnewbie.common.vo.Result;
+import lombok.extern.slf4j.*;
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.*;
+
+import static com.curtisnewbie.goauth.client.GoAuthResults.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author yongj.zhuang
+ */
+@Slf4j
+public class RoleResourceCacheTest {
+
+    @Test
+    public void should_check_resource_locally() {
+        final GoAuthClient goAuthClient = mock(GoAuthClient.class);
+        when(goAuthClient.listRoleResources(any()))
+                .thenReturn(roleResourcesResult("role_1", "dummy", "dummy-info"))
+                .thenReturn(roleResourcesResult("role_1", "dummy-info"));
+
+        final RoleResourceCache cache = new RoleResourceCache(goAuthClient, TimeUnit.MINUTES.toMillis(3));
+        Assertions.assertTrue(cache.hasResource("role_1", "dummy"));
+        Assertions.assertTrue(cache.hasResource("role_1", "dummy-info"));
+        Assertions.assertFalse(cache.hasResource("role_1", "not-granted"));
+        verify(goAuthClient, times(1)).listRoleResources(any());
+
+        cache.refreshAll();
+        Assertions.assertFalse(cache.hasResource("role_1", "dummy"));
+        Assertions.assertTrue(cache.hasResource("role_1", "dummy-info"));
+        verify(goAuthClient, times(2)).listRoleResources(any());
+    }
+
+    @Test
+    public void should_keep_resources_until_stale_when_refresh_failed() {
+        final GoAuthClient goAuthClient = mock(GoAuthClient.class);
+        when(goAuthClient.listRoleResources(any()))
+                .thenReturn(roleResourcesResult("role_1", "dummy"))
+                .thenReturn(errorResult());
+
+        final RoleResourceCache cache = new RoleResourceCache(goAuthClient, TimeUnit.MINUTES.toMillis(3));
+        Assertions.assertTrue(cache.hasResource("role_1", "dummy"));
+        cache.refreshAll();
+        Assertions.assertTrue(cache.hasResource("role_1", "dummy"));
+        verify(goAuthClient, times(2)).listRoleResources(any());
+
+        // resources are always stale, they are reloaded and the error is propagated
+        final GoAuthClient staleClient = mock(GoAuthClient.class);
+        when(staleClient.listRoleResources(any()))
+                .thenReturn(roleResourcesResult("role_1", "dummy"))
+                .thenReturn(errorResult());
+        final RoleResourceCache staleCache = new RoleResourceCache(staleClient, 0);
+        Assertions.assertTrue(staleCache.hasResource("role_1", "dummy"));
+        Assertions.assertThrows(Exception.class, () -> staleCache.hasResource("role_1", "dummy"));
+    }
+
+    @Test
+    public void should_cache_unknown_role() {
+        final GoAuthClient goAuthClient = mock(GoAuthClient.class);
+        when(goAuthClient.listRoleResources(any()))
+                .thenReturn(roleResourcesResult("role_1", "dummy"))
+                .thenReturn(Result.of(null));
+
+        final RoleResourceCache cache = new RoleResourceCache(goAuthClient, TimeUnit.MINUTES.toMillis(3));
+        Assertions.assertTrue(cache.hasResource("role_1", "dummy"));
+        cache.refreshAll();
+        Assertions.assertFalse(cache.hasResource("role_1", "dummy"));
+        Assertions.assertFalse(cache.hasResource("role_1", "dummy"));
+        verify(goAuthClient, times(2)).listRoleResources(any());
+
+        Assertions.assertFalse(cache.hasResource("role_2", "dummy"));
+        Assertions.assertFalse(cache.hasResource("role_2", "dummy"));
+        verify(goAuthClient, times(3)).listRoleResources(any());
+    }
+
+    @Test
+    public void should_not_put_back_role_invalidated_during_refresh() {
+        final GoAuthClient goAuthClient = mock(GoAuthClient.class);
+        final RoleResourceCache cache = new RoleResourceCache(goAuthClient, TimeUnit.MINUTES.toMillis(3));
+        when(goAuthClient.listRoleResources(any()))
+                .thenReturn(roleResourcesResult("role_1", "dummy"))
+                .thenAnswer(inv -> {
+                    cache.invalidate("role_1");
+                    return roleResourcesResult("role_1", "dummy");
+                })
+                .thenReturn(roleResourcesResult("role_1"));
+
+        Assertions.assertTrue(cache.hasResource("role_1", "dummy"));
+        cache.refreshAll();
+        Assertions.assertFalse(cache.hasResource("role_1", "dummy")); // loaded again
+        verify(goAuthClient, times(3)).listRoleResources(any());
+    }
+}